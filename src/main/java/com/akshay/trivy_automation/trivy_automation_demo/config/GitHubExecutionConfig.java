@@ -0,0 +1,43 @@
+package com.akshay.trivy_automation.trivy_automation_demo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executor used for outbound GitHub I/O.
+ * <p>
+ * The execution mode follows {@code spring.threads.virtual.enabled}: on a Java 21+ runtime with the
+ * property set, GitHub calls that are fanned out in parallel each get their own virtual thread (and Tomcat
+ * serves requests on virtual threads too). Otherwise a bounded platform thread pool is used.
+ */
+@Configuration
+public class GitHubExecutionConfig {
+
+    public static final String GITHUB_IO_EXECUTOR = "githubIoExecutor";
+    private static final String THREAD_NAME_PREFIX = "github-io-";
+
+    @Bean(GITHUB_IO_EXECUTOR)
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public AsyncTaskExecutor virtualGithubIoExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(THREAD_NAME_PREFIX);
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    @Bean(GITHUB_IO_EXECUTOR)
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public AsyncTaskExecutor platformGithubIoExecutor(@Value("${app.github.io-pool-size:8}") int poolSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(THREAD_NAME_PREFIX);
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.initialize();
+        return executor;
+    }
+}
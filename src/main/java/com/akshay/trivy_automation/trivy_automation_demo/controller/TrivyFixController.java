@@ -1,5 +1,6 @@
 package com.akshay.trivy_automation.trivy_automation_demo.controller;
 
+import com.akshay.trivy_automation.trivy_automation_demo.service.ParentFixAggregationService;
 import com.akshay.trivy_automation.trivy_automation_demo.service.TrivyFixService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -9,12 +10,16 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/v1/trivy")
 @RequiredArgsConstructor
 public class TrivyFixController {
 
     private final TrivyFixService fixService;
+    private final ParentFixAggregationService aggregationService;
 
     @PostMapping("/fix")
     public ResponseEntity<String> fix(@RequestParam("file") MultipartFile file)
@@ -22,4 +27,12 @@ public class TrivyFixController {
 
         return ResponseEntity.ok(fixService.fixAndCreatePR(file));
     }
+
+    @PostMapping("/fix/aggregate")
+    public ResponseEntity<Map<String, String>> fixAggregated(@RequestParam("file") List<MultipartFile> files,
+                                                             @RequestParam("repository") List<String> repositories)
+            throws Exception {
+
+        return ResponseEntity.ok(aggregationService.fixAndCreatePRs(files, repositories));
+    }
 }
@@ -0,0 +1,69 @@
+package com.akshay.trivy_automation.trivy_automation_demo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.io.IOException;
+import java.util.function.ToLongFunction;
+
+@Name("trivy.GitHubCall")
+@Label("GitHub Call")
+@Category({"Trivy Automation", "GitHub"})
+@Description("A blocking call made through org.kohsuke.github")
+public class GitHubCallEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Repository")
+    public String repository;
+
+    @Label("Payload Bytes")
+    @Description("Size of the file content sent or received, 0 for calls without one")
+    public long payloadBytes;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+
+    @Label("Error")
+    public String error;
+
+    @FunctionalInterface
+    public interface Call<T> {
+        T call() throws IOException;
+    }
+
+    /**
+     * Runs {@code call} and records it as a GitHub call event, including failures.
+     */
+    public static <T> T record(String operation, String repository, Call<T> call) throws IOException {
+        return record(operation, repository, call, result -> 0);
+    }
+
+    /**
+     * Same as {@link #record(String, String, Call)}, with the payload size taken from the successful result.
+     */
+    public static <T> T record(String operation,
+                               String repository,
+                               Call<T> call,
+                               ToLongFunction<? super T> payloadBytes) throws IOException {
+        GitHubCallEvent event = new GitHubCallEvent();
+        event.operation = operation;
+        event.repository = repository;
+        event.begin();
+        try {
+            T result = call.call();
+            event.succeeded = true;
+            event.payloadBytes = payloadBytes.applyAsLong(result);
+            return result;
+        } catch (IOException | RuntimeException ex) {
+            event.error = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            event.commit();
+        }
+    }
+}
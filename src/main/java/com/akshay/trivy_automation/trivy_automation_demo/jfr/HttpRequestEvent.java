@@ -0,0 +1,26 @@
+package com.akshay.trivy_automation.trivy_automation_demo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("trivy.HttpRequest")
+@Label("HTTP Request")
+@Category({"Trivy Automation", "HTTP"})
+@Description("A /api request handled by the service")
+public class HttpRequestEvent extends Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Status")
+    public int status;
+
+    @Label("Request Bytes")
+    public long requestBytes;
+}
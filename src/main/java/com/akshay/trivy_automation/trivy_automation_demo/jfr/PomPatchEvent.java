@@ -0,0 +1,26 @@
+package com.akshay.trivy_automation.trivy_automation_demo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("trivy.PomPatch")
+@Label("pom.xml Patch")
+@Category({"Trivy Automation", "pom.xml"})
+@Description("A single PomXmlPatcher operation on the pom.xml text")
+public class PomPatchEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Dependency")
+    public String dependency;
+
+    @Label("Input Length")
+    public int inputLength;
+
+    @Label("Output Length")
+    public int outputLength;
+}
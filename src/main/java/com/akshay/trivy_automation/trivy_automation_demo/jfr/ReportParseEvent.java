@@ -0,0 +1,26 @@
+package com.akshay.trivy_automation.trivy_automation_demo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("trivy.ReportParse")
+@Label("Trivy Report Parse")
+@Category({"Trivy Automation", "Report"})
+@Description("Deserialization of an uploaded Trivy report and extraction of its fixes")
+public class ReportParseEvent extends Event {
+
+    @Label("Report Bytes")
+    public long reportBytes;
+
+    @Label("Results")
+    public int results;
+
+    @Label("Vulnerabilities")
+    public int vulnerabilities;
+
+    @Label("Fixes")
+    public int fixes;
+}
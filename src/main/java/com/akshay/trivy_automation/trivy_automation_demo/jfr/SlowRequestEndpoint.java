@@ -0,0 +1,49 @@
+package com.akshay.trivy_automation.trivy_automation_demo.jfr;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code GET /actuator/slowrequests} lists the captured traces,
+ * {@code GET /actuator/slowrequests/{name}} downloads one as a JFR file.
+ */
+@Component
+@WebEndpoint(id = "slowrequests")
+@RequiredArgsConstructor
+public class SlowRequestEndpoint {
+
+    private final SlowRequestRecorder recorder;
+
+    @ReadOperation
+    public List<TraceDescriptor> traces() throws IOException {
+        List<TraceDescriptor> descriptors = new ArrayList<>();
+        for (Path trace : recorder.traces()) {
+            descriptors.add(new TraceDescriptor(
+                    trace.getFileName().toString(),
+                    Files.size(trace),
+                    Files.getLastModifiedTime(trace).toInstant().toString()));
+        }
+        return descriptors;
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public Resource trace(@Selector String name) throws IOException {
+        return recorder.trace(name)
+                .map(FileSystemResource::new)
+                .orElse(null);
+    }
+
+    public record TraceDescriptor(String name, long sizeBytes, String capturedAt) {
+    }
+}
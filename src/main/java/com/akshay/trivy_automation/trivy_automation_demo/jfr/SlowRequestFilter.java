@@ -0,0 +1,49 @@
+package com.akshay.trivy_automation.trivy_automation_demo.jfr;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Wraps every {@code /api} request in an {@link HttpRequestEvent} and hands its latency to the
+ * {@link SlowRequestRecorder}, which only queues the dump so the response is not delayed.
+ */
+@Component
+@RequiredArgsConstructor
+public class SlowRequestFilter extends OncePerRequestFilter {
+
+    private final SlowRequestRecorder recorder;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        HttpRequestEvent event = new HttpRequestEvent();
+        event.method = request.getMethod();
+        event.path = request.getRequestURI();
+        event.requestBytes = request.getContentLengthLong();
+
+        long start = System.nanoTime();
+        event.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            event.status = response.getStatus();
+            event.commit();
+            recorder.onRequestCompleted(event.path, Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+}
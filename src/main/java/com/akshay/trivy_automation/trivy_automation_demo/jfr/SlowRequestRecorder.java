@@ -0,0 +1,153 @@
+package com.akshay.trivy_automation.trivy_automation_demo.jfr;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps an always-on JFR recording as a ring buffer bounded by {@code app.jfr.max-age}. When a request
+ * exceeds {@code app.jfr.slow-request-threshold} the buffer, which holds the full trace of that request,
+ * is dumped to {@code app.jfr.directory}. Only the newest {@code app.jfr.retained-traces} dumps are kept.
+ * <p>
+ * Dumps run on a single background thread, so the slow request itself never waits for the file copy.
+ */
+@Slf4j
+@Component
+public class SlowRequestRecorder {
+
+    private static final String TRACE_PREFIX = "slow-request-";
+    private static final String TRACE_SUFFIX = ".jfr";
+
+    private final boolean enabled;
+    private final Duration threshold;
+    private final Duration maxAge;
+    private final int retainedTraces;
+    private final Path directory;
+
+    private final ExecutorService dumper = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "slow-request-dumper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Recording recording;
+    // Start of the last dump's snapshot; only touched by the dumper thread.
+    private Instant lastDump = Instant.EPOCH;
+
+    public SlowRequestRecorder(@Value("${app.jfr.enabled:true}") boolean enabled,
+                               @Value("${app.jfr.slow-request-threshold:10s}") Duration threshold,
+                               @Value("${app.jfr.max-age:5m}") Duration maxAge,
+                               @Value("${app.jfr.retained-traces:20}") int retainedTraces,
+                               @Value("${app.jfr.directory:${java.io.tmpdir}/trivy-slow-requests}") Path directory) {
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.maxAge = maxAge;
+        this.retainedTraces = retainedTraces;
+        this.directory = directory;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) return;
+
+        Files.createDirectories(directory);
+
+        recording = new Recording();
+        recording.setName("slow-request-ring-buffer");
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+
+        recording.enable(HttpRequestEvent.class);
+        recording.enable(ReportParseEvent.class);
+        recording.enable(PomPatchEvent.class);
+        recording.enable(GitHubCallEvent.class);
+
+        // Low-overhead JDK context that usually explains where the time went.
+        recording.enable("jdk.GarbageCollection");
+        recording.enable("jdk.SocketRead").withThreshold(Duration.ofMillis(20)).withStackTrace();
+        recording.enable("jdk.JavaMonitorEnter").withThreshold(Duration.ofMillis(20)).withStackTrace();
+        recording.enable("jdk.ThreadPark").withThreshold(Duration.ofMillis(20)).withStackTrace();
+
+        recording.start();
+        log.info("Slow request recorder started (threshold {}, window {}, directory {})", threshold, maxAge, directory);
+    }
+
+    @PreDestroy
+    public void stop() {
+        dumper.shutdownNow();
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    /**
+     * Queues a dump of the ring buffer if the request took longer than the threshold; returns immediately.
+     */
+    public void onRequestCompleted(String path, Duration elapsed) {
+        if (recording == null || elapsed.compareTo(threshold) < 0) return;
+
+        Instant finishedAt = Instant.now();
+        dumper.execute(() -> dump(path, elapsed, finishedAt));
+    }
+
+    /**
+     * A dump whose snapshot started after the request finished covers it, so concurrent slow requests share a
+     * single file. The snapshot start is what counts: a request finishing while a dump is being written is not in it.
+     */
+    private void dump(String path, Duration elapsed, Instant finishedAt) {
+        if (!lastDump.isBefore(finishedAt)) return;
+
+        Path target = directory.resolve(TRACE_PREFIX + finishedAt.toEpochMilli() + "-" + elapsed.toMillis() + "ms" + TRACE_SUFFIX);
+        try {
+            Instant snapshotAt = Instant.now();
+            recording.dump(target);
+            lastDump = snapshotAt;
+            log.warn("Request {} took {} ms, flight recording saved as {}", path, elapsed.toMillis(), target.getFileName());
+            prune();
+        } catch (IOException ex) {
+            log.error("Unable to dump flight recording for slow request {}", path, ex);
+        }
+    }
+
+    public List<Path> traces() throws IOException {
+        if (!Files.isDirectory(directory)) return List.of();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(TRACE_PREFIX) && name.endsWith(TRACE_SUFFIX);
+                    })
+                    .sorted(Comparator.comparing((Path p) -> p.getFileName().toString()).reversed())
+                    .toList();
+        }
+    }
+
+    public Optional<Path> trace(String name) throws IOException {
+        return traces().stream()
+                .filter(p -> p.getFileName().toString().equals(name))
+                .findFirst();
+    }
+
+    private void prune() throws IOException {
+        List<Path> traces = traces();
+        for (Path stale : traces.subList(Math.min(retainedTraces, traces.size()), traces.size())) {
+            Files.deleteIfExists(stale);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.akshay.trivy_automation.trivy_automation_demo.service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Signs the short-lived RS256 JWT a GitHub App uses to request installation tokens.
+ * Accepts the private key either as PKCS#8 ({@code BEGIN PRIVATE KEY}) or as the PKCS#1
+ * ({@code BEGIN RSA PRIVATE KEY}) file GitHub hands out.
+ */
+final class GitHubAppJwt {
+
+    // GitHub rejects JWTs valid for more than 10 minutes; back-date iat to absorb clock drift.
+    private static final Duration CLOCK_SKEW = Duration.ofSeconds(60);
+    private static final Duration TTL = Duration.ofMinutes(9);
+
+    private static final byte[] RSA_ALGORITHM_IDENTIFIER = {
+            0x30, 0x0d, 0x06, 0x09, 0x2a, (byte) 0x86, 0x48, (byte) 0x86,
+            (byte) 0xf7, 0x0d, 0x01, 0x01, 0x01, 0x05, 0x00
+    };
+
+    private final String appId;
+    private final PrivateKey privateKey;
+
+    GitHubAppJwt(String appId, String privateKeyPem) {
+        this.appId = appId;
+        this.privateKey = parsePrivateKey(privateKeyPem);
+    }
+
+    String sign() {
+        Instant now = Instant.now();
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+
+        String header = encoder.encodeToString("{\"alg\":\"RS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+        String payload = encoder.encodeToString(String.format("{\"iat\":%d,\"exp\":%d,\"iss\":\"%s\"}",
+                now.minus(CLOCK_SKEW).getEpochSecond(),
+                now.plus(TTL).getEpochSecond(),
+                appId).getBytes(StandardCharsets.UTF_8));
+        String signingInput = header + "." + payload;
+
+        try {
+            Signature signature = Signature.getInstance("SHA256withRSA");
+            signature.initSign(privateKey);
+            signature.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+            return signingInput + "." + encoder.encodeToString(signature.sign());
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Unable to sign GitHub App JWT", ex);
+        }
+    }
+
+    private static PrivateKey parsePrivateKey(String pem) {
+        // Keys passed through environment variables often carry literal "\n" sequences.
+        String normalized = pem.replace("\\n", "\n");
+        boolean pkcs1 = normalized.contains("BEGIN RSA PRIVATE KEY");
+
+        String base64 = normalized.replaceAll("-----[A-Z ]+-----", "").replaceAll("\\s", "");
+        byte[] der = Base64.getDecoder().decode(base64);
+        if (pkcs1) {
+            der = wrapPkcs1InPkcs8(der);
+        }
+
+        try {
+            return KeyFactory.getInstance("RSA").generatePrivate(new PKCS8EncodedKeySpec(der));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Invalid GitHub App private key", ex);
+        }
+    }
+
+    /**
+     * PrivateKeyInfo ::= SEQUENCE { version INTEGER(0), algorithm AlgorithmIdentifier, privateKey OCTET STRING }
+     */
+    private static byte[] wrapPkcs1InPkcs8(byte[] pkcs1) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.writeBytes(new byte[]{0x02, 0x01, 0x00});
+        body.writeBytes(RSA_ALGORITHM_IDENTIFIER);
+        writeDer(body, 0x04, pkcs1);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeDer(out, 0x30, body.toByteArray());
+        return out.toByteArray();
+    }
+
+    private static void writeDer(ByteArrayOutputStream out, int tag, byte[] content) {
+        out.write(tag);
+        int length = content.length;
+        if (length < 0x80) {
+            out.write(length);
+        } else if (length <= 0xff) {
+            out.write(0x81);
+            out.write(length);
+        } else if (length <= 0xffff) {
+            out.write(0x82);
+            out.write(length >> 8);
+            out.write(length);
+        } else {
+            out.write(0x83);
+            out.write(length >> 16);
+            out.write(length >> 8);
+            out.write(length);
+        }
+        out.writeBytes(content);
+    }
+}
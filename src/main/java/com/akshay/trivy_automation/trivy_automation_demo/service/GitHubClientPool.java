@@ -0,0 +1,277 @@
+package com.akshay.trivy_automation.trivy_automation_demo.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.kohsuke.github.GHAppInstallationToken;
+import org.kohsuke.github.GHRateLimit;
+import org.kohsuke.github.GitHub;
+import org.kohsuke.github.GitHubBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pool of GitHub credentials (personal access tokens and/or GitHub App installations).
+ * <p>
+ * Each credential keeps its own {@link GitHub} client, whose rate limit is tracked from the
+ * response headers of the calls it already made. {@link #acquire()} hands out the client with the
+ * most remaining core API headroom, so traffic is spread across every token's hourly budget.
+ * Acquisitions whose calls have not been answered yet are charged against that headroom as an
+ * estimate, so a burst of requests is spread too instead of all landing on the same credential.
+ * Installation tokens are re-minted by a background thread well before they expire, so requests
+ * normally never wait for a token exchange.
+ */
+@Slf4j
+@Component
+public class GitHubClientPool {
+
+    // The request path only refreshes once a token is inside this margin; the background refresh starts earlier.
+    private static final Duration INSTALLATION_TOKEN_REFRESH_MARGIN = Duration.ofMinutes(5);
+
+    // One fix PR costs about this many core calls: repository, pom.xml, two refs, commit and the PR lookup/creation.
+    private static final int ESTIMATED_CALLS_PER_ACQUIRE = 6;
+
+    private final String apiUrl;
+    private final List<PooledCredential> credentials = new ArrayList<>();
+    private final ReentrantLock selectionLock = new ReentrantLock();
+    private long acquisitions;
+    private ScheduledExecutorService refresher;
+
+    public GitHubClientPool(@Value("${app.github.api-url:https://api.github.com}") String apiUrl,
+                            @Value("${app.github.token:}") String token,
+                            @Value("${app.github.tokens:}") List<String> tokens,
+                            @Value("${app.github.app.id:}") String appId,
+                            @Value("${app.github.app.private-key:}") String appPrivateKey,
+                            @Value("${app.github.app.installation-ids:}") List<Long> installationIds,
+                            @Value("${app.github.app.token-refresh-ahead:10m}") Duration tokenRefreshAhead,
+                            @Value("${app.github.app.token-check-interval:1m}") Duration tokenCheckInterval) {
+        this.apiUrl = apiUrl;
+
+        List<String> pats = new ArrayList<>();
+        pats.add(token);
+        pats.addAll(tokens);
+        pats.stream()
+                .filter(pat -> pat != null && !pat.isBlank())
+                .map(String::trim)
+                .distinct()
+                .forEach(pat -> credentials.add(new PatCredential("token #" + (credentials.size() + 1), pat)));
+
+        if (appId != null && !appId.isBlank() && !installationIds.isEmpty()) {
+            GitHubAppJwt jwt = new GitHubAppJwt(appId.trim(), appPrivateKey);
+            List<InstallationCredential> installations = new ArrayList<>();
+            installationIds.forEach(id -> installations.add(new InstallationCredential(jwt, id)));
+            credentials.addAll(installations);
+
+            refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "github-token-refresher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            refresher.scheduleWithFixedDelay(
+                    () -> installations.forEach(i -> i.refreshIfExpiringWithin(tokenRefreshAhead)),
+                    0, tokenCheckInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        log.info("GitHub credential pool initialised with {} credential(s) against {}", credentials.size(), apiUrl);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the client with the largest estimated remaining core rate limit. Clients that have not been
+     * used yet report an unknown (very large) limit, so they are tried first; ties go to the least recently
+     * acquired credential.
+     */
+    public GitHub acquire() throws IOException {
+        if (credentials.isEmpty()) {
+            throw new IllegalStateException("GITHUB_TOKEN is not set");
+        }
+
+        PooledCredential best;
+        long estimated;
+        selectionLock.lock();
+        try {
+            credentials.forEach(PooledCredential::reconcile);
+            best = credentials.stream()
+                    .max(Comparator.comparingLong(PooledCredential::estimatedRemaining)
+                            .thenComparing(Comparator.comparingLong((PooledCredential c) -> c.lastAcquired).reversed()))
+                    .orElseThrow();
+            best.lastAcquired = ++acquisitions;
+            best.estimatedSpend += ESTIMATED_CALLS_PER_ACQUIRE;
+            estimated = best.estimatedRemaining();
+        } finally {
+            selectionLock.unlock();
+        }
+
+        log.debug("Using GitHub credential {} (about {} requests remaining)", best.name, estimated);
+        return best.client();
+    }
+
+    public int size() {
+        return credentials.size();
+    }
+
+    private GitHubBuilder builder() {
+        return new GitHubBuilder().withEndpoint(apiUrl);
+    }
+
+    private abstract static class PooledCredential {
+
+        final String name;
+        volatile GitHub client;
+        volatile long lastAcquired;
+
+        // Guarded by selectionLock: calls charged on acquire that the last reconciled headers do not reflect yet.
+        long estimatedSpend;
+        private GHRateLimit.Record reconciledCore;
+
+        // The core record a freshly built client starts with, and the last real one seen before that client.
+        private volatile GHRateLimit.Record initialCore;
+        private volatile GHRateLimit.Record carriedCore;
+
+        PooledCredential(String name) {
+            this.name = name;
+        }
+
+        abstract GitHub client() throws IOException;
+
+        /**
+         * Swaps in a new client. Until the new client has seen its first response, the rate limit observed
+         * by the previous one keeps applying: the budget belongs to the credential, not to the token string.
+         */
+        void install(GitHub fresh) {
+            GHRateLimit.Record last = core();
+            initialCore = fresh.lastRateLimit().getCore();
+            carriedCore = last;
+            client = fresh;
+        }
+
+        /**
+         * Folds in the rate limit of any response that arrived since the last selection: the calls it
+         * reports as used are taken off the estimate, the rest are assumed to be still in flight.
+         */
+        void reconcile() {
+            GHRateLimit.Record core = core();
+            if (core == reconciledCore) return;
+
+            long landed = reconciledCore == null ? estimatedSpend : Math.max(0, remaining(reconciledCore) - remaining(core));
+            estimatedSpend = Math.max(0, estimatedSpend - landed);
+            reconciledCore = core;
+        }
+
+        long estimatedRemaining() {
+            return remaining(reconciledCore) - estimatedSpend;
+        }
+
+        private static long remaining(GHRateLimit.Record core) {
+            if (core == null) return Integer.MAX_VALUE;
+
+            // Once the window has reset the cached headers are stale; treat the budget as full again.
+            if (core.getResetDate().toInstant().isBefore(Instant.now())) return core.getLimit();
+            return core.getRemaining();
+        }
+
+        private GHRateLimit.Record core() {
+            GitHub current = client;
+            if (current == null) return null;
+
+            GHRateLimit.Record core = current.lastRateLimit().getCore();
+            return core == initialCore ? carriedCore : core;
+        }
+    }
+
+    private final class PatCredential extends PooledCredential {
+
+        PatCredential(String name, String token) {
+            super(name);
+            try {
+                install(builder().withOAuthToken(token).build());
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        @Override
+        GitHub client() {
+            return client;
+        }
+    }
+
+    private final class InstallationCredential extends PooledCredential {
+
+        private final GitHubAppJwt jwt;
+        private final long installationId;
+        private final ReentrantLock refreshLock = new ReentrantLock();
+        private volatile Instant expiresAt = Instant.EPOCH;
+
+        InstallationCredential(GitHubAppJwt jwt, long installationId) {
+            super("installation " + installationId);
+            this.jwt = jwt;
+            this.installationId = installationId;
+        }
+
+        @Override
+        GitHub client() throws IOException {
+            GitHub current = client;
+            if (current != null && !expiresWithin(INSTALLATION_TOKEN_REFRESH_MARGIN)) {
+                return current;
+            }
+
+            // Only reached if the background refresh fell behind.
+            refreshLock.lock();
+            try {
+                if (client == null || expiresWithin(INSTALLATION_TOKEN_REFRESH_MARGIN)) {
+                    refresh();
+                }
+                return client;
+            } finally {
+                refreshLock.unlock();
+            }
+        }
+
+        void refreshIfExpiringWithin(Duration window) {
+            refreshLock.lock();
+            try {
+                if (client == null || expiresWithin(window)) {
+                    refresh();
+                }
+            } catch (IOException | RuntimeException ex) {
+                log.warn("Unable to refresh GitHub App installation token for {}", installationId, ex);
+            } finally {
+                refreshLock.unlock();
+            }
+        }
+
+        private boolean expiresWithin(Duration window) {
+            return Instant.now().plus(window).isAfter(expiresAt);
+        }
+
+        private void refresh() throws IOException {
+            GitHub app = builder().withJwtToken(jwt.sign()).build();
+            GHAppInstallationToken installationToken = app.getApp()
+                    .getInstallationById(installationId)
+                    .createToken()
+                    .create();
+
+            install(builder().withAppInstallationToken(installationToken.getToken()).build());
+            expiresAt = installationToken.getExpiresAt().toInstant();
+            log.info("Refreshed GitHub App installation token for {} (expires {})", installationId, expiresAt);
+        }
+    }
+}
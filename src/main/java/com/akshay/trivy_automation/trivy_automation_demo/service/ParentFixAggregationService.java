@@ -0,0 +1,19 @@
+package com.akshay.trivy_automation.trivy_automation_demo.service;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+import java.util.Map;
+
+public interface ParentFixAggregationService {
+
+    /**
+     * Remediates several repositories at once. Fixes shared by every child of a known parent/BOM are
+     * raised as a single PR against the parent repository; the rest are applied to each child.
+     *
+     * @param trivyReports one Trivy report per repository
+     * @param repositories {@code owner/name} (or just {@code name} for the configured owner) of each report
+     * @return outcome per repository, parents included
+     */
+    Map<String, String> fixAndCreatePRs(List<MultipartFile> trivyReports, List<String> repositories) throws Exception;
+}
@@ -0,0 +1,251 @@
+package com.akshay.trivy_automation.trivy_automation_demo.service;
+
+import com.akshay.trivy_automation.trivy_automation_demo.config.GitHubExecutionConfig;
+import com.akshay.trivy_automation.trivy_automation_demo.jfr.GitHubCallEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.maven.model.Model;
+import org.kohsuke.github.GHContent;
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.GitHub;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+@Slf4j
+@Service
+public class ParentFixAggregationServiceImpl implements ParentFixAggregationService {
+
+    private static final String NO_FIXES = "No fixable vulnerabilities found.";
+
+    private final TrivyFixService fixService;
+    private final GitHubClientPool githubClientPool;
+    private final AsyncTaskExecutor githubIoExecutor;
+    private final String defaultOwner;
+    private final ParentFixPlanner planner;
+    private final Semaphore repositoryPermits;
+
+    /**
+     * @param parentRepositories entries of the form {@code groupId:artifactId=owner/repo} telling which
+     *                           repository hosts each in-house parent POM or BOM
+     * @param maxConcurrentRepositories how many repositories of one batch talk to GitHub at the same time; with
+     *                                  virtual threads the executor itself sets no limit
+     */
+    public ParentFixAggregationServiceImpl(TrivyFixService fixService,
+                                           GitHubClientPool githubClientPool,
+                                           @Qualifier(GitHubExecutionConfig.GITHUB_IO_EXECUTOR) AsyncTaskExecutor githubIoExecutor,
+                                           @Value("${app.repository.owner}") String defaultOwner,
+                                           @Value("${app.aggregation.parent-repositories:}") List<String> parentRepositories,
+                                           @Value("${app.aggregation.min-children:2}") int minChildren,
+                                           @Value("${app.aggregation.max-concurrent-repositories:8}") int maxConcurrentRepositories) {
+        this.fixService = fixService;
+        this.githubClientPool = githubClientPool;
+        this.githubIoExecutor = githubIoExecutor;
+        this.defaultOwner = defaultOwner;
+        this.planner = new ParentFixPlanner(ParentFixPlanner.parseParentRepositories(parentRepositories), minChildren);
+        this.repositoryPermits = new Semaphore(maxConcurrentRepositories);
+    }
+
+    @Override
+    public Map<String, String> fixAndCreatePRs(List<MultipartFile> trivyReports, List<String> repositories) throws Exception {
+
+        if (trivyReports.size() != repositories.size()) {
+            throw new IllegalArgumentException("Expected one repository per report, got "
+                    + trivyReports.size() + " reports and " + repositories.size() + " repositories");
+        }
+
+        List<String> repositoryNames = repositories.stream().map(this::qualify).toList();
+        Set<String> seen = new HashSet<>();
+        List<String> duplicates = repositoryNames.stream().filter(name -> !seen.add(name)).distinct().toList();
+        if (!duplicates.isEmpty()) {
+            throw new IllegalArgumentException("Each repository can only be listed once, got duplicates " + duplicates);
+        }
+
+        Map<String, String> outcomes = new LinkedHashMap<>();
+
+        // 1) Parse every report, then fetch the children's pom.xml files in parallel. A repository whose report
+        // or pom.xml cannot be read is reported as failed and left out of the rest of the batch.
+        Map<String, Future<Child>> pending = new LinkedHashMap<>();
+        for (int i = 0; i < trivyReports.size(); i++) {
+            String repositoryName = repositoryNames.get(i);
+            Map<String, String> fixes;
+            try {
+                fixes = ParentFixPlanner.normalize(fixService.readFixes(trivyReports.get(i)));
+            } catch (Exception e) {
+                log.error("Failed to read the Trivy report for {}", repositoryName, e);
+                outcomes.put(repositoryName, "Failed: " + e.getMessage());
+                continue;
+            }
+            if (fixes.isEmpty()) {
+                outcomes.put(repositoryName, NO_FIXES);
+                continue;
+            }
+            pending.put(repositoryName, submit(() -> loadChild(repositoryName, fixes)));
+        }
+
+        Map<String, Child> children = new LinkedHashMap<>();
+        for (Map.Entry<String, Future<Child>> entry : pending.entrySet()) {
+            try {
+                Child child = await(entry.getValue(), pending.values());
+                if (child.pomXml == null) {
+                    outcomes.put(entry.getKey(), "No pom.xml found");
+                } else {
+                    children.put(child.repositoryName, child);
+                }
+            } catch (ExecutionException e) {
+                log.error("Failed to load repository {}", entry.getKey(), e.getCause());
+                outcomes.put(entry.getKey(), "Failed: " + e.getCause().getMessage());
+            }
+        }
+
+        // 2) Raise the fixes shared by all children of a parent once, upstream. Children only drop those
+        // fixes once the parent's fix branch holds exactly them; otherwise they keep fixing them locally.
+        List<ParentFixPlanner.ChildFixes> childFixes = children.values().stream()
+                .map(c -> new ParentFixPlanner.ChildFixes(c.repositoryName, c.model, c.fixes))
+                .toList();
+        for (ParentFixPlanner.ParentFix parentFix : planner.plan(childFixes)) {
+            ParentOutcome parent = fixParent(parentFix.repository(), parentFix.fixes());
+            outcomes.put(parentFix.repository(), parent.message() + " (" + parentFix.fixes().size()
+                    + " shared fixes for " + parentFix.coveredByChild().size() + " children)");
+            if (!parent.fixesOnBranch()) continue;
+
+            parentFix.coveredByChild().forEach((repositoryName, covered) -> {
+                Child child = children.get(repositoryName);
+                if (child != null && !covered.isEmpty()) {
+                    child.fixes.keySet().removeAll(covered);
+                    child.coveredByParent = parentFix.repository();
+                }
+            });
+        }
+
+        // 3) Everything not covered upstream is fixed in the child itself, one task per repository.
+        Map<String, Future<String>> fixing = new LinkedHashMap<>();
+        for (Child child : children.values()) {
+            fixing.put(child.repositoryName, submit(() -> fixChild(child)));
+        }
+        for (Map.Entry<String, Future<String>> entry : fixing.entrySet()) {
+            try {
+                outcomes.put(entry.getKey(), await(entry.getValue(), fixing.values()));
+            } catch (ExecutionException e) {
+                log.error("Failed to fix repository {}", entry.getKey(), e.getCause());
+                outcomes.put(entry.getKey(), "Failed: " + e.getCause().getMessage());
+            }
+        }
+
+        return outcomes;
+    }
+
+    private Child loadChild(String repositoryName, Map<String, String> fixes) throws Exception {
+        GHRepository repository = repository(repositoryName);
+        GHContent pom = fixService.fetchPom(repository);
+        if (pom == null) {
+            return new Child(repositoryName, null, null, null, fixes);
+        }
+        String pomXml = pom.getContent();
+        return new Child(repositoryName, pomXml, pom.getSha(), fixService.readModel(pomXml), fixes);
+    }
+
+    private ParentOutcome fixParent(String repositoryName, Map<String, String> fixes) {
+        try {
+            GHRepository repository = repository(repositoryName);
+            GHContent pom = fixService.fetchPom(repository);
+            if (pom == null) return new ParentOutcome("No pom.xml found", false);
+
+            String pomXml = pom.getContent();
+            String updatedPomXml = fixService.applyFixes(pomXml, fixService.readModel(pomXml), fixes);
+            if (updatedPomXml == null) return new ParentOutcome("No changes needed", false);
+
+            TrivyFixService.FixPrResult result = fixService.createFixPR(repository, updatedPomXml, pom.getSha());
+            return new ParentOutcome(result.message(), result.fixesOnBranch());
+        } catch (Exception e) {
+            log.error("Failed to fix parent repository {}", repositoryName, e);
+            return new ParentOutcome("Failed: " + e.getMessage(), false);
+        }
+    }
+
+    private String fixChild(Child child) {
+        try {
+            if (!child.fixes.isEmpty()) {
+                String updatedPomXml = fixService.applyFixes(child.pomXml, child.model, child.fixes);
+                if (updatedPomXml != null) {
+                    return fixService.createFixPR(repository(child.repositoryName), updatedPomXml, child.pomSha).message();
+                }
+            }
+            return child.coveredByParent != null ? "Covered by parent PR in " + child.coveredByParent : "No changes needed";
+        } catch (Exception e) {
+            log.error("Failed to fix repository {}", child.repositoryName, e);
+            return "Failed: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Each repository draws its own client from the pool, so a batch is spread over every credential.
+     */
+    private GHRepository repository(String repositoryName) throws IOException {
+        GitHub github = githubClientPool.acquire();
+        return GitHubCallEvent.record("getRepository", repositoryName,
+                () -> github.getRepository(repositoryName));
+    }
+
+    /**
+     * Runs {@code task} on the GitHub I/O executor, at most {@code maxConcurrentRepositories} at a time.
+     */
+    private <T> Future<T> submit(Callable<T> task) {
+        return githubIoExecutor.submit(() -> {
+            repositoryPermits.acquire();
+            try {
+                return task.call();
+            } finally {
+                repositoryPermits.release();
+            }
+        });
+    }
+
+    private String qualify(String repository) {
+        return repository.contains("/") ? repository.trim() : defaultOwner + "/" + repository.trim();
+    }
+
+    /**
+     * Waits for one task of the batch. A failed task only affects its own repository; if the request thread is
+     * interrupted, every task of the batch is cancelled (interrupting the ones still running).
+     */
+    private static <T> T await(Future<T> future, Collection<? extends Future<?>> batch)
+            throws ExecutionException, InterruptedException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            batch.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw ex;
+        }
+    }
+
+    private record ParentOutcome(String message, boolean fixesOnBranch) {
+    }
+
+    private static final class Child {
+
+        final String repositoryName;
+        final String pomXml;
+        final String pomSha;
+        final Model model;
+        final Map<String, String> fixes;
+        String coveredByParent;
+
+        Child(String repositoryName, String pomXml, String pomSha, Model model, Map<String, String> fixes) {
+            this.repositoryName = repositoryName;
+            this.pomXml = pomXml;
+            this.pomSha = pomSha;
+            this.model = model;
+            this.fixes = fixes;
+        }
+    }
+}
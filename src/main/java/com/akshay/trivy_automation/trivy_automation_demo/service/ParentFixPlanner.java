@@ -0,0 +1,154 @@
+package com.akshay.trivy_automation.trivy_automation_demo.service;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Decides which fixes can be raised once against a parent/BOM repository instead of in every child.
+ * Works on parsed models only; no GitHub calls.
+ */
+final class ParentFixPlanner {
+
+    /**
+     * Normalized fixes ({@code groupId:artifactId -> version}) of one child repository.
+     */
+    record ChildFixes(String repository, Model model, Map<String, String> fixes) {
+    }
+
+    /**
+     * One PR against a parent repository, and per child the fixes that PR makes redundant there.
+     */
+    record ParentFix(String repository, Map<String, String> fixes, Map<String, Set<String>> coveredByChild) {
+    }
+
+    private final Map<String, String> parentRepositories;
+    private final int minChildren;
+
+    /**
+     * @param parentRepositories {@code groupId:artifactId -> owner/repo} of the in-house parents/BOMs
+     */
+    ParentFixPlanner(Map<String, String> parentRepositories, int minChildren) {
+        this.parentRepositories = parentRepositories;
+        this.minChildren = minChildren;
+    }
+
+    /**
+     * Parses {@code groupId:artifactId=owner/repo} entries.
+     */
+    static Map<String, String> parseParentRepositories(List<String> entries) {
+        Map<String, String> parentRepositories = new HashMap<>();
+        for (String entry : entries) {
+            if (entry == null || entry.isBlank()) continue;
+
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2 || parts[0].split(":").length != 2) {
+                throw new IllegalArgumentException("Invalid app.aggregation.parent-repositories entry: " + entry);
+            }
+            parentRepositories.put(parts[0].trim(), parts[1].trim());
+        }
+        return parentRepositories;
+    }
+
+    /**
+     * Groups children by their configured {@code <parent>} and returns one {@link ParentFix} per parent
+     * repository. Parents that share a repository are merged into one PR; a package they would set to
+     * different versions is left to the children.
+     */
+    List<ParentFix> plan(List<ChildFixes> children) {
+        Map<String, List<ChildFixes>> byParent = new LinkedHashMap<>();
+        for (ChildFixes child : children) {
+            Parent parent = child.model().getParent();
+            if (parent == null) continue;
+
+            String parentKey = parent.getGroupId() + ":" + parent.getArtifactId();
+            if (parentRepositories.containsKey(parentKey)) {
+                byParent.computeIfAbsent(parentKey, k -> new ArrayList<>()).add(child);
+            }
+        }
+
+        Map<String, Map<String, String>> fixesByRepository = new LinkedHashMap<>();
+        Map<String, Map<String, Set<String>>> coveredByRepository = new HashMap<>();
+        Map<String, Set<String>> conflictsByRepository = new HashMap<>();
+
+        for (Map.Entry<String, List<ChildFixes>> group : byParent.entrySet()) {
+            List<ChildFixes> siblings = group.getValue();
+            if (siblings.size() < minChildren) continue;
+
+            Map<String, String> common = commonFixes(siblings);
+            if (common.isEmpty()) continue;
+
+            String repository = parentRepositories.get(group.getKey());
+            Map<String, String> repositoryFixes = fixesByRepository.computeIfAbsent(repository, k -> new TreeMap<>());
+            Set<String> conflicts = conflictsByRepository.computeIfAbsent(repository, k -> new HashSet<>());
+            common.forEach((pkg, version) -> {
+                String existing = repositoryFixes.putIfAbsent(pkg, version);
+                if (existing != null && !existing.equals(version)) conflicts.add(pkg);
+            });
+
+            Map<String, Set<String>> covered = coveredByRepository.computeIfAbsent(repository, k -> new LinkedHashMap<>());
+            for (ChildFixes child : siblings) {
+                Set<String> childCovered = new TreeSet<>();
+                common.keySet().stream()
+                        .filter(pkg -> !pinsVersion(child.model(), pkg))
+                        .forEach(childCovered::add);
+                covered.put(child.repository(), childCovered);
+            }
+        }
+
+        List<ParentFix> plan = new ArrayList<>();
+        fixesByRepository.forEach((repository, fixes) -> {
+            Set<String> conflicts = conflictsByRepository.get(repository);
+            fixes.keySet().removeAll(conflicts);
+            if (fixes.isEmpty()) return;
+
+            Map<String, Set<String>> covered = coveredByRepository.get(repository);
+            covered.values().forEach(pkgs -> pkgs.removeAll(conflicts));
+            plan.add(new ParentFix(repository, fixes, covered));
+        });
+        return plan;
+    }
+
+    /**
+     * Fixes present in every sibling with the same target version.
+     */
+    static Map<String, String> commonFixes(List<ChildFixes> siblings) {
+        if (siblings.isEmpty()) return Map.of();
+
+        Map<String, String> common = new HashMap<>(siblings.get(0).fixes());
+        for (ChildFixes sibling : siblings.subList(1, siblings.size())) {
+            common.entrySet().removeIf(e -> !e.getValue().equals(sibling.fixes().get(e.getKey())));
+        }
+        return common;
+    }
+
+    /**
+     * Trivy may list several fixed versions ("1.2.3, 2.0.1"); only the first one is applied, so compare on that.
+     */
+    static Map<String, String> normalize(Map<String, String> fixes) {
+        Map<String, String> normalized = new HashMap<>();
+        fixes.forEach((pkg, versions) -> normalized.put(pkg, versions.split(",")[0].trim()));
+        return normalized;
+    }
+
+    /**
+     * A version declared in the child itself wins over the parent's dependencyManagement,
+     * so such a fix still has to be applied in the child.
+     */
+    static boolean pinsVersion(Model model, String pkg) {
+        String[] cords = pkg.split(":");
+        if (cords.length != 2) return false;
+
+        Stream<Dependency> managed = model.getDependencyManagement() == null
+                ? Stream.empty()
+                : model.getDependencyManagement().getDependencies().stream();
+
+        return Stream.concat(model.getDependencies().stream(), managed)
+                .anyMatch(d -> cords[0].equals(d.getGroupId())
+                        && cords[1].equals(d.getArtifactId())
+                        && d.getVersion() != null);
+    }
+}
@@ -3,20 +3,44 @@ package com.akshay.trivy_automation.trivy_automation_demo.service;
 import com.akshay.trivy_automation.trivy_automation_demo.dto.TrivyReport;
 import org.apache.maven.model.Dependency;
 import org.apache.maven.model.Model;
+import org.kohsuke.github.GHContent;
 import org.kohsuke.github.GHRepository;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.Map;
 import java.util.Optional;
 
 public interface TrivyFixService {
 
+    String PR_CREATED = "PR Created";
+    String PR_UPDATED = "PR updated";
+    String PR_ALREADY_EXISTS = "PR already exist";
+    String FIX_BRANCH_CONFLICT = "Fix branch changed concurrently, nothing committed";
+
+    /**
+     * Outcome of {@link #createFixPR}. {@code fixesOnBranch} is true only when the fix branch now holds exactly
+     * the pom.xml that was passed in, committed by this call or already there.
+     */
+    record FixPrResult(String message, boolean fixesOnBranch) {
+    }
+
     String fixAndCreatePR(MultipartFile trivyReport) throws Exception;
 
+    Map<String, String> readFixes(MultipartFile trivyReport) throws IOException;
+
     Map<String, String> extractFixes(TrivyReport report);
 
     String updatePomFiles(GHRepository repository, Map<String, String> fixes) throws Exception;
 
+    GHContent fetchPom(GHRepository repository) throws IOException;
+
+    Model readModel(String pomXml) throws Exception;
+
+    String applyFixes(String originalPomXml, Model model, Map<String, String> fixes);
+
+    FixPrResult createFixPR(GHRepository repository, String updatedPomXml, String basePomSha) throws IOException;
+
     Optional<Dependency> findDirectDependency(
             Model model, String groupId, String artifactId);
 
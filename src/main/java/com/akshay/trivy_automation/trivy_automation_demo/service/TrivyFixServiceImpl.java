@@ -1,6 +1,9 @@
 package com.akshay.trivy_automation.trivy_automation_demo.service;
 
 import com.akshay.trivy_automation.trivy_automation_demo.dto.TrivyReport;
+import com.akshay.trivy_automation.trivy_automation_demo.jfr.GitHubCallEvent;
+import com.akshay.trivy_automation.trivy_automation_demo.jfr.PomPatchEvent;
+import com.akshay.trivy_automation.trivy_automation_demo.jfr.ReportParseEvent;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.maven.model.Dependency;
@@ -13,7 +16,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.function.UnaryOperator;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -30,48 +35,88 @@ public class TrivyFixServiceImpl implements TrivyFixService {
 
     private final String owner;
     private final String repoName;
-    private final String token;
+    private final GitHubClientPool githubClientPool;
 
     public TrivyFixServiceImpl(@Value("${app.repository.owner}") String owner,
                                @Value("${app.repository.name}") String repoName,
-                               @Value("${app.github.token}") String token) {
+                               GitHubClientPool githubClientPool) {
         this.owner = owner;
         this.repoName = repoName;
-        this.token = token;
+        this.githubClientPool = githubClientPool;
     }
 
     @Override
     public String fixAndCreatePR(MultipartFile trivyFile) throws Exception {
 
-        ObjectMapper mapper = new ObjectMapper();
-        TrivyReport report = mapper.readValue(trivyFile.getInputStream(), TrivyReport.class);
-
-        Map<String, String> fixes = extractFixes(report);
+        Map<String, String> fixes = readFixes(trivyFile);
         if (fixes.isEmpty()) {
             return "No fixable vulnerabilities found.";
         }
 
-        GitHub github = new GitHubBuilder()
-                .withOAuthToken(token)
-                .build();
+        GitHub github = githubClientPool.acquire();
+
+        String repositoryName = owner + "/" + repoName;
+        GHRepository repository = GitHubCallEvent.record("getRepository", repositoryName,
+                () -> github.getRepository(repositoryName));
 
-        GHRepository repository = github.getRepository(owner + "/" + repoName);
+        GHContent pom = fetchPom(repository);
+        if (pom == null) {
+            return "No fixable vulnerabilities found.";
+        }
 
-        String updatedPomXml = updatePomFiles(repository, fixes);
-        boolean isCommited = false;
+        String originalPomXml = pom.getContent();
+        String updatedPomXml = applyFixes(originalPomXml, readModel(originalPomXml), fixes);
         if (updatedPomXml != null) {
-            createBranch(repository);
-            isCommited = createCommit(repository, BRANCH_NAME, updatedPomXml);
-            if (isCommited) {
-                boolean prCreated = createPr(repository, BRANCH_NAME);
-                return "PR Created";
-            } else {
-                return "PR already exist";
-            }
+            return createFixPR(repository, updatedPomXml, pom.getSha()).message();
         }
         return "No fixable vulnerabilities found.";
     }
 
+    @Override
+    public Map<String, String> readFixes(MultipartFile trivyFile) throws IOException {
+
+        ReportParseEvent parseEvent = new ReportParseEvent();
+        parseEvent.reportBytes = trivyFile.getSize();
+        parseEvent.begin();
+        try {
+            ObjectMapper mapper = new ObjectMapper();
+            TrivyReport report = mapper.readValue(trivyFile.getInputStream(), TrivyReport.class);
+            if (report.getResults() != null) {
+                parseEvent.results = report.getResults().size();
+                parseEvent.vulnerabilities = report.getResults().stream()
+                        .mapToInt(r -> r.getVulnerabilities() == null ? 0 : r.getVulnerabilities().size())
+                        .sum();
+            }
+
+            Map<String, String> fixes = extractFixes(report);
+            parseEvent.fixes = fixes.size();
+            return fixes;
+        } finally {
+            // Committed on failure too, so malformed reports still show up in the trace.
+            parseEvent.commit();
+        }
+    }
+
+    /**
+     * Failures other than a concurrent change of the fix branch are thrown, so a returned result always says
+     * truthfully whether these changes are on the branch.
+     */
+    @Override
+    public FixPrResult createFixPR(GHRepository repository, String updatedPomXml, String basePomSha) throws IOException {
+        boolean branchCreated = createBranch(repository);
+
+        CommitOutcome commit = createCommit(repository, BRANCH_NAME, updatedPomXml, basePomSha, branchCreated);
+        if (commit == CommitOutcome.CONFLICT) {
+            return new FixPrResult(FIX_BRANCH_CONFLICT, false);
+        }
+
+        boolean prCreated = createPr(repository, BRANCH_NAME);
+        if (prCreated) {
+            return new FixPrResult(PR_CREATED, true);
+        }
+        return new FixPrResult(commit == CommitOutcome.COMMITTED ? PR_UPDATED : PR_ALREADY_EXISTS, true);
+    }
+
     @Override
     public Map<String, String> extractFixes(TrivyReport report) {
         Map<String, String> fixes = new HashMap<>();
@@ -96,23 +141,42 @@ public class TrivyFixServiceImpl implements TrivyFixService {
     @Override
     public String updatePomFiles(GHRepository repository, Map<String, String> fixes) throws Exception {
 
-        if (token == null || token.isBlank()) {
-            throw new IllegalStateException("GITHUB_TOKEN is not set");
-        }
+        GHContent pom = fetchPom(repository);
+        if (pom == null) return null;
 
-        GHContent pomContent;
+        String originalPomXml = pom.getContent();
+        return applyFixes(originalPomXml, readModel(originalPomXml), fixes);
+    }
+
+    /**
+     * Fetches the root pom.xml once; its sha is reused as the base for the fix commit.
+     */
+    @Override
+    public GHContent fetchPom(GHRepository repository) throws IOException {
+        String repositoryName = repository.getFullName();
         try {
-            pomContent = repository.getFileContent(POM_XML);
+            return GitHubCallEvent.record("getFileContent", repositoryName,
+                    () -> repository.getFileContent(POM_XML),
+                    GHContent::getSize);
         } catch (GHFileNotFoundException ex) {
-            log.info("No pom.xml found");
+            log.info("No pom.xml found in {}", repositoryName);
             return null;
         }
+    }
 
-        String originalPomXml = pomContent.getContent();
-        String updatedPomXml = originalPomXml;
-
+    @Override
+    public Model readModel(String pomXml) throws Exception {
         MavenXpp3Reader reader = new MavenXpp3Reader();
-        Model model = reader.read(new java.io.StringReader(originalPomXml));
+        return reader.read(new java.io.StringReader(pomXml));
+    }
+
+    /**
+     * Same contract as {@link #updatePomFiles}, for a pom.xml that was already fetched and parsed.
+     */
+    @Override
+    public String applyFixes(String originalPomXml, Model model, Map<String, String> fixes) {
+
+        String updatedPomXml = originalPomXml;
 
         boolean changed = false;
 
@@ -129,7 +193,8 @@ public class TrivyFixServiceImpl implements TrivyFixService {
             if (direct.isPresent()) {
                 Dependency dep = direct.get();
                 if (!fixedVersion.equals(dep.getVersion())) {
-                    updatedPomXml = PomXmlPatcher.patchDependencyVersion(updatedPomXml, groupId, artifactId, fixedVersion, false);
+                    updatedPomXml = patch("patchDirectVersion", groupId, artifactId, updatedPomXml,
+                            xml -> PomXmlPatcher.patchDependencyVersion(xml, groupId, artifactId, fixedVersion, false));
                     dep.setVersion(fixedVersion);
                     changed = true;
                 }
@@ -141,7 +206,8 @@ public class TrivyFixServiceImpl implements TrivyFixService {
             if (managed.isPresent()) {
                 Dependency dep = managed.get();
                 if (!fixedVersion.equals(dep.getVersion())) {
-                    updatedPomXml = PomXmlPatcher.patchDependencyVersion(updatedPomXml, groupId, artifactId, fixedVersion, true);
+                    updatedPomXml = patch("patchManagedVersion", groupId, artifactId, updatedPomXml,
+                            xml -> PomXmlPatcher.patchDependencyVersion(xml, groupId, artifactId, fixedVersion, true));
                     dep.setVersion(fixedVersion);
                     changed = true;
                 }
@@ -149,7 +215,8 @@ public class TrivyFixServiceImpl implements TrivyFixService {
             }
 
             // 3) Transitive -> add override into dependencyManagement
-            updatedPomXml = PomXmlPatcher.ensureDependencyManagementOverride(updatedPomXml, groupId, artifactId, fixedVersion);
+            updatedPomXml = patch("ensureDependencyManagementOverride", groupId, artifactId, updatedPomXml,
+                    xml -> PomXmlPatcher.ensureDependencyManagementOverride(xml, groupId, artifactId, fixedVersion));
             changed = true;
         }
 
@@ -157,6 +224,25 @@ public class TrivyFixServiceImpl implements TrivyFixService {
         return updatedPomXml;
     }
 
+    private static String patch(String operation,
+                                String groupId,
+                                String artifactId,
+                                String pomXml,
+                                UnaryOperator<String> patcher) {
+        PomPatchEvent event = new PomPatchEvent();
+        event.begin();
+        String patched = patcher.apply(pomXml);
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.dependency = groupId + ":" + artifactId;
+            event.inputLength = pomXml.length();
+            event.outputLength = patched.length();
+            event.commit();
+        }
+        return patched;
+    }
+
     @Override
     public Optional<Dependency> findDirectDependency(Model model, String groupId, String artifactId) {
         return model.getDependencies().stream()
@@ -201,54 +287,96 @@ public class TrivyFixServiceImpl implements TrivyFixService {
         return true;
     }
 
-    public void createBranch(GHRepository repository) throws IOException {
+    /**
+     * Returns true if the fix branch was created by this call, false if it already existed.
+     */
+    public boolean createBranch(GHRepository repository) throws IOException {
+        String repositoryName = repository.getFullName();
         String baseBranch = repository.getDefaultBranch();
-        String baseSha = repository.getRef("refs/heads/" + baseBranch)
+        String baseSha = GitHubCallEvent.record("getRef", repositoryName,
+                () -> repository.getRef("refs/heads/" + baseBranch))
                 .getObject()
                 .getSha();
 
         try {
-            repository.getRef("refs/heads/" + BRANCH_NAME);
+            GitHubCallEvent.record("getRef", repositoryName,
+                    () -> repository.getRef("refs/heads/" + BRANCH_NAME));
+            return false;
         } catch (GHFileNotFoundException ex) {
-            repository.createRef("refs/heads/" + BRANCH_NAME, baseSha);
+            GitHubCallEvent.record("createRef", repositoryName,
+                    () -> repository.createRef("refs/heads/" + BRANCH_NAME, baseSha));
+            return true;
         }
     }
 
-    public boolean createCommit(GHRepository repository, String branchName, String updatedPomXml) throws IOException {
+    public enum CommitOutcome {
+        COMMITTED,
+        ALREADY_ON_BRANCH,
+        CONFLICT
+    }
 
-        String currentSha = repository.getFileContent(POM_XML).getSha();
-        boolean isCommited = false;
+    /**
+     * Commits {@code updatedPomXml} to {@code branchName}. A branch that already existed may carry an earlier
+     * fix commit, so its own pom.xml is the base there; if it already holds exactly this content nothing is
+     * committed. A 409 means the branch moved between that read and the commit and is reported as a conflict;
+     * every other failure is thrown.
+     */
+    public CommitOutcome createCommit(GHRepository repository,
+                                      String branchName,
+                                      String updatedPomXml,
+                                      String basePomSha,
+                                      boolean branchCreated) throws IOException {
+        String repositoryName = repository.getFullName();
+
+        String currentSha = basePomSha;
+        if (!branchCreated) {
+            GHContent branchPom = GitHubCallEvent.record("getFileContent", repositoryName,
+                    () -> repository.getFileContent(POM_XML, branchName),
+                    GHContent::getSize);
+            if (updatedPomXml.equals(branchPom.getContent())) {
+                return CommitOutcome.ALREADY_ON_BRANCH;
+            }
+            currentSha = branchPom.getSha();
+        }
+
+        String sha = currentSha;
         try {
-            repository.createContent()
-                    .branch(branchName)
-                    .path(POM_XML)
-                    .content(updatedPomXml)
-                    .message("Auto-fix Maven vulnerabilities detected by Trivy")
-                    .sha(currentSha)
-                    .commit();
-            isCommited = true;
-            return isCommited;
-        } catch (Exception e) {
-            log.error("PR already exists: {}", e.fillInStackTrace());
-            return isCommited;
+            GitHubCallEvent.record("createContent", repositoryName,
+                    () -> repository.createContent()
+                            .branch(branchName)
+                            .path(POM_XML)
+                            .content(updatedPomXml)
+                            .message("Auto-fix Maven vulnerabilities detected by Trivy")
+                            .sha(sha)
+                            .commit(),
+                    commit -> updatedPomXml.getBytes(StandardCharsets.UTF_8).length);
+            return CommitOutcome.COMMITTED;
+        } catch (HttpException ex) {
+            if (ex.getResponseCode() != 409) throw ex;
+
+            log.warn("{} on branch {} of {} changed while committing, nothing committed", POM_XML, branchName, repositoryName);
+            return CommitOutcome.CONFLICT;
         }
     }
 
     public boolean createPr(GHRepository repository, String branchName) throws IOException {
-        boolean prExists = !repository.queryPullRequests()
-                .state(GHIssueState.OPEN)
-                .head(owner + ":" + branchName)
-                .list()
-                .toList()
+        String repositoryName = repository.getFullName();
+        boolean prExists = !GitHubCallEvent.record("queryPullRequests", repositoryName,
+                () -> repository.queryPullRequests()
+                        .state(GHIssueState.OPEN)
+                        .head(repository.getOwnerName() + ":" + branchName)
+                        .list()
+                        .toList())
                 .isEmpty();
 
         if (!prExists) {
-            repository.createPullRequest(
-                    PR_TITLE,
-                    branchName,
-                    "master",
-                    PR_BODY
-            );
+            GitHubCallEvent.record("createPullRequest", repositoryName,
+                    () -> repository.createPullRequest(
+                            PR_TITLE,
+                            branchName,
+                            repository.getDefaultBranch(),
+                            PR_BODY
+                    ));
             return true;
         }
 
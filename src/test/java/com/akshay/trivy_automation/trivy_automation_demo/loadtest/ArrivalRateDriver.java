@@ -0,0 +1,227 @@
+package com.akshay.trivy_automation.trivy_automation_demo.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Open-model load generator: requests are started on a fixed schedule regardless of how many are
+ * still in flight, and latency is measured from the scheduled start so queueing delay is not hidden
+ * (no coordinated omission). Requests scheduled during the warm-up are sent but not recorded.
+ * <p>
+ * A scenario with {@code repositories > 0} posts that many reports to {@code /fix/aggregate}, one per
+ * repository {@code load-test/repo-<n>}. They share the scenario's packages, which go to the parent PR, and
+ * each adds one package of its own, which stays with the child.
+ * <p>
+ * Heap and GC figures are sampled for the whole test JVM, which hosts the service, this driver and
+ * the GitHub stub together, so they include the harness's own allocations.
+ */
+final class ArrivalRateDriver implements AutoCloseable {
+
+    private static final String BOUNDARY = "----trivy-load-test-boundary";
+    private static final String FIX_PATH = "/api/v1/trivy/fix";
+    private static final String AGGREGATE_PATH = "/api/v1/trivy/fix/aggregate";
+    private static final int UNIQUE_PACKAGE_OFFSET = 1000;
+
+    record Scenario(String name, int vulnerabilities, int repositories, int weight) {
+    }
+
+    record Result(long requests,
+                  long errors,
+                  double throughputPerSecond,
+                  long p50Millis,
+                  long p99Millis,
+                  long p999Millis,
+                  long maxMillis,
+                  long jvmPeakHeapBytes,
+                  long jvmGcCount,
+                  long jvmGcMillis) {
+
+        double errorRate() {
+            return requests == 0 ? 0 : (double) errors / requests;
+        }
+    }
+
+    private final List<Scenario> scenarios;
+    private final List<URI> targets = new ArrayList<>();
+    private final List<byte[]> bodies = new ArrayList<>();
+    private final int totalWeight;
+    private final ExecutorService clientExecutor = Executors.newCachedThreadPool();
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(clientExecutor)
+            .build();
+
+    ArrivalRateDriver(URI baseUri, List<Scenario> scenarios) {
+        this.scenarios = scenarios;
+        this.totalWeight = scenarios.stream().mapToInt(Scenario::weight).sum();
+        for (Scenario scenario : scenarios) {
+            if (scenario.repositories() == 0) {
+                targets.add(baseUri.resolve(FIX_PATH));
+                bodies.add(multipart(List.of(LoadTestData.trivyReport(scenario.vulnerabilities())), List.of()));
+            } else {
+                targets.add(baseUri.resolve(AGGREGATE_PATH));
+                bodies.add(aggregateBody(scenario));
+            }
+        }
+    }
+
+    Result run(double ratePerSecond, Duration warmUp, Duration duration, long seed) throws InterruptedException {
+        long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        long warmUpNanos = warmUp.toNanos();
+        long totalNanos = warmUpNanos + duration.toNanos();
+
+        Random random = new Random(seed);
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicLong errors = new AtomicLong();
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        AtomicLong peakHeap = new AtomicLong();
+        ScheduledExecutorService heapSampler = Executors.newSingleThreadScheduledExecutor();
+        heapSampler.scheduleAtFixedRate(
+                () -> peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max),
+                0, 100, TimeUnit.MILLISECONDS);
+
+        long gcCountBefore = 0;
+        long gcMillisBefore = 0;
+
+        long start = System.nanoTime();
+        boolean measuring = warmUpNanos == 0;
+        for (long i = 0; ; i++) {
+            long scheduledAt = start + i * periodNanos;
+            if (scheduledAt - start >= totalNanos) break;
+
+            long wait = scheduledAt - System.nanoTime();
+            if (wait > 0) TimeUnit.NANOSECONDS.sleep(wait);
+
+            boolean recorded = scheduledAt - start >= warmUpNanos;
+            if (recorded && !measuring) {
+                measuring = true;
+                gcCountBefore = gcCount();
+                gcMillisBefore = gcMillis();
+                peakHeap.set(0);
+            }
+
+            int scenario = pick(random);
+            byte[] body = bodies.get(scenario);
+            HttpRequest request = HttpRequest.newBuilder(targets.get(scenario))
+                    .timeout(Duration.ofSeconds(60))
+                    .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                    .build();
+
+            CompletableFuture<?> call = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        if (!recorded) return;
+                        latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - scheduledAt));
+                        if (failure != null || response.statusCode() != 200) errors.incrementAndGet();
+                    });
+            if (recorded) inFlight.add(call);
+        }
+
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new))
+                .exceptionally(ex -> null)
+                .join();
+        double elapsedSeconds = (System.nanoTime() - start - warmUpNanos) / 1e9;
+        heapSampler.shutdownNow();
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        return new Result(
+                sorted.length,
+                errors.get(),
+                sorted.length / elapsedSeconds,
+                percentile(sorted, 0.50),
+                percentile(sorted, 0.99),
+                percentile(sorted, 0.999),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1],
+                peakHeap.get(),
+                gcCount() - gcCountBefore,
+                gcMillis() - gcMillisBefore);
+    }
+
+    @Override
+    public void close() {
+        clientExecutor.shutdownNow();
+    }
+
+    private int pick(Random random) {
+        int roll = random.nextInt(totalWeight);
+        for (int i = 0; i < scenarios.size(); i++) {
+            roll -= scenarios.get(i).weight();
+            if (roll < 0) return i;
+        }
+        return scenarios.size() - 1;
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount)
+                .filter(c -> c > 0)
+                .sum();
+    }
+
+    private static long gcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+                .filter(t -> t > 0)
+                .sum();
+    }
+
+    private static byte[] aggregateBody(Scenario scenario) {
+        List<byte[]> reports = new ArrayList<>();
+        List<String> repositories = new ArrayList<>();
+        for (int n = 0; n < scenario.repositories(); n++) {
+            int[] packages = IntStream.concat(
+                    IntStream.range(0, scenario.vulnerabilities()),
+                    IntStream.of(UNIQUE_PACKAGE_OFFSET + n)).toArray();
+            reports.add(LoadTestData.trivyReport(packages));
+            repositories.add("load-test/repo-" + n);
+        }
+        return multipart(reports, repositories);
+    }
+
+    private static byte[] multipart(List<byte[]> reports, List<String> repositories) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        for (byte[] report : reports) {
+            body.writeBytes(("--" + BOUNDARY + "\r\n"
+                    + "Content-Disposition: form-data; name=\"file\"; filename=\"trivy-report.json\"\r\n"
+                    + "Content-Type: application/json\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+            body.writeBytes(report);
+            body.writeBytes("\r\n".getBytes(StandardCharsets.UTF_8));
+        }
+        for (String repository : repositories) {
+            body.writeBytes(("--" + BOUNDARY + "\r\n"
+                    + "Content-Disposition: form-data; name=\"repository\"\r\n\r\n"
+                    + repository + "\r\n").getBytes(StandardCharsets.UTF_8));
+        }
+        body.writeBytes(("--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return body.toByteArray();
+    }
+}
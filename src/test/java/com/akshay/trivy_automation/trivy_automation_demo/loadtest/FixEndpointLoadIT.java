@@ -0,0 +1,190 @@
+package com.akshay.trivy_automation.trivy_automation_demo.loadtest;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Drives {@code POST /api/v1/trivy/fix} and, for multi-repository scenarios, {@code POST /api/v1/trivy/fix/aggregate}
+ * at a fixed arrival rate against {@link GitHubStubServer} and
+ * compares the result with the committed baseline. Run with {@code ./mvnw -Pload-test verify}; tune it
+ * with the {@code loadtest.*} system properties and re-record the baseline with
+ * {@code -Dloadtest.update-baseline=true}. The comparison is skipped while no baseline has been recorded.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class FixEndpointLoadIT {
+
+    private static final GitHubStubServer STUB = startStub();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void github(DynamicPropertyRegistry registry) {
+        registry.add("app.github.api-url", STUB::baseUrl);
+        registry.add("app.github.token", () -> "load-test-token");
+        registry.add("app.repository.owner", () -> "load-test");
+        registry.add("app.repository.name", () -> "target");
+        registry.add("app.aggregation.parent-repositories", () -> LoadTestData.PARENT + "=load-test/load-parent");
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    // name:vulnerabilities:weight[:repositories]; scenarios with repositories go through /fix/aggregate.
+    private static final String DEFAULT_MIX = "small:10:60,medium:100:20,large:500:5,batch-10:10:10:10,batch-50:10:5:50";
+    private static final String DEFAULT_TOLERANCE = "0.15";
+    private static final List<String> BASELINE_KEYS =
+            List.of("p50.ms", "p99.ms", "p999.ms", "jvm.heap.peak.bytes", "throughput.per.second", "error.rate");
+
+    @Test
+    void fixEndpointMeetsBaseline() throws Exception {
+        String mix = System.getProperty("loadtest.mix", DEFAULT_MIX);
+        double rate = Double.parseDouble(System.getProperty("loadtest.rate", "10"));
+
+        ArrivalRateDriver.Result result;
+        try (ArrivalRateDriver driver = new ArrivalRateDriver(
+                URI.create("http://127.0.0.1:" + port), scenarios(mix))) {
+            result = driver.run(
+                    rate,
+                    Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 15)),
+                    Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 60)),
+                    Long.getLong("loadtest.seed", 42));
+        }
+
+        Properties measured = toProperties(result);
+        Path report = Path.of("target", "loadtest", "result.properties");
+        Files.createDirectories(report.getParent());
+        store(measured, report, "Load test result (stub requests " + STUB.requests()
+                + ", injected errors " + STUB.injectedErrors() + ")");
+
+        Path baselineFile = Path.of(System.getProperty("loadtest.baseline", "src/test/resources/loadtest/baseline.properties"));
+        if (Boolean.getBoolean("loadtest.update-baseline")) {
+            measured.setProperty("tolerance", DEFAULT_TOLERANCE);
+            store(measured, baselineFile, baselineHeader(rate, mix));
+            return;
+        }
+
+        Properties baseline = new Properties();
+        try (Reader reader = Files.newBufferedReader(baselineFile)) {
+            baseline.load(reader);
+        }
+        // Until a baseline is recorded there is nothing to compare against; the result file is still written.
+        assumeTrue(BASELINE_KEYS.stream().allMatch(baseline::containsKey),
+                () -> baselineFile + " has no measured baseline; record one on the reference runner with "
+                        + "-Dloadtest.update-baseline=true");
+        assertThat(regressions(baseline, result)).as("regressions against %s", baselineFile).isEmpty();
+    }
+
+    private static String baselineHeader(double rate, String mix) throws IOException {
+        return String.join(System.lineSeparator(),
+                "Performance baseline for FixEndpointLoadIT",
+                "Runner: " + InetAddress.getLocalHost().getHostName() + " (" + System.getProperty("os.name") + " "
+                        + System.getProperty("os.version") + " " + System.getProperty("os.arch") + ", "
+                        + Runtime.getRuntime().availableProcessors() + " CPUs, max heap "
+                        + Runtime.getRuntime().maxMemory() / (1024 * 1024) + " MiB)",
+                "JDK: " + System.getProperty("java.vm.vendor") + " " + System.getProperty("java.runtime.version"),
+                "Load: " + rate + " req/s, mix " + mix + ", stub latency "
+                        + Long.getLong("loadtest.stub.latency-ms", 30) + "ms + 0-"
+                        + Long.getLong("loadtest.stub.jitter-ms", 20) + "ms jitter",
+                "Recorded: " + Instant.now());
+    }
+
+    private static List<String> regressions(Properties baseline, ArrivalRateDriver.Result result) {
+        double tolerance = Double.parseDouble(baseline.getProperty("tolerance", DEFAULT_TOLERANCE));
+        List<String> regressions = new ArrayList<>();
+
+        checkAtMost(regressions, "p50.ms", result.p50Millis(), baseline, tolerance);
+        checkAtMost(regressions, "p99.ms", result.p99Millis(), baseline, tolerance);
+        checkAtMost(regressions, "p999.ms", result.p999Millis(), baseline, tolerance);
+        checkAtMost(regressions, "jvm.heap.peak.bytes", result.jvmPeakHeapBytes(), baseline, tolerance);
+
+        double minThroughput = Double.parseDouble(baseline.getProperty("throughput.per.second")) * (1 - tolerance);
+        if (result.throughputPerSecond() < minThroughput) {
+            regressions.add(String.format("throughput.per.second %.2f < %.2f", result.throughputPerSecond(), minThroughput));
+        }
+
+        double maxErrorRate = Double.parseDouble(baseline.getProperty("error.rate"));
+        if (result.errorRate() > maxErrorRate) {
+            regressions.add(String.format("error.rate %.4f > %.4f", result.errorRate(), maxErrorRate));
+        }
+        return regressions;
+    }
+
+    private static void checkAtMost(List<String> regressions, String key, long actual, Properties baseline, double tolerance) {
+        long limit = (long) (Long.parseLong(baseline.getProperty(key)) * (1 + tolerance));
+        if (actual > limit) {
+            regressions.add(key + " " + actual + " > " + limit);
+        }
+    }
+
+    private static Properties toProperties(ArrivalRateDriver.Result result) {
+        Properties properties = new Properties();
+        properties.setProperty("requests", String.valueOf(result.requests()));
+        properties.setProperty("error.rate", String.format("%.4f", result.errorRate()));
+        properties.setProperty("throughput.per.second", String.format("%.2f", result.throughputPerSecond()));
+        properties.setProperty("p50.ms", String.valueOf(result.p50Millis()));
+        properties.setProperty("p99.ms", String.valueOf(result.p99Millis()));
+        properties.setProperty("p999.ms", String.valueOf(result.p999Millis()));
+        properties.setProperty("max.ms", String.valueOf(result.maxMillis()));
+        // Whole test JVM: service, driver and stub share the heap.
+        properties.setProperty("jvm.heap.peak.bytes", String.valueOf(result.jvmPeakHeapBytes()));
+        properties.setProperty("jvm.gc.count", String.valueOf(result.jvmGcCount()));
+        properties.setProperty("jvm.gc.ms", String.valueOf(result.jvmGcMillis()));
+        return properties;
+    }
+
+    private static void store(Properties properties, Path file, String comment) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            properties.store(writer, comment);
+        }
+    }
+
+    private static List<ArrivalRateDriver.Scenario> scenarios(String mix) {
+        List<ArrivalRateDriver.Scenario> scenarios = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            scenarios.add(new ArrivalRateDriver.Scenario(
+                    parts[0],
+                    Integer.parseInt(parts[1]),
+                    parts.length > 3 ? Integer.parseInt(parts[3]) : 0,
+                    Integer.parseInt(parts[2])));
+        }
+        return scenarios;
+    }
+
+    private static GitHubStubServer startStub() {
+        try {
+            return new GitHubStubServer(
+                    Duration.ofMillis(Long.getLong("loadtest.stub.latency-ms", 30)),
+                    Duration.ofMillis(Long.getLong("loadtest.stub.jitter-ms", 20)),
+                    Double.parseDouble(System.getProperty("loadtest.stub.error-rate", "0")),
+                    Integer.getInteger("loadtest.stub.rate-limit", 1_000_000),
+                    Integer.getInteger("loadtest.pom-dependencies", 50));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package com.akshay.trivy_automation.trivy_automation_demo.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process stand-in for the subset of the GitHub REST API used by TrivyFixServiceImpl and GitHubClientPool.
+ * Every repository looks the same: a default branch {@code master} holding a generated pom.xml,
+ * no fix branch and no open pull request. Any GitHub App installation can mint tokens
+ * ({@code ghs_<installation>_<n>}). Latency, server errors, rate-limit headers and the installation
+ * token lifetime are configurable so the service can be driven without touching real GitHub.
+ */
+public final class GitHubStubServer implements AutoCloseable {
+
+    private static final Pattern REPO_PATH = Pattern.compile("^/repos/([^/]+)/([^/]+)(/.*)?$");
+    private static final Pattern APP_PATH = Pattern.compile("^/app(?:/installations/(\\d+)(/access_tokens)?)?$");
+    private static final Pattern REF_PATH = Pattern.compile("^/git/refs?/heads/(.+)$");
+    private static final String BASE_SHA = "0000000000000000000000000000000000000001";
+    private static final String POM_SHA = "0000000000000000000000000000000000000002";
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Duration latency;
+    private final Duration jitter;
+    private final double errorRate;
+    private final int rateLimit;
+    private final AtomicInteger rateLimitUsed = new AtomicInteger();
+    private final Map<String, Integer> remainingByToken = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private final String pomXml;
+    private final Map<Long, Integer> remainingByInstallation = new ConcurrentHashMap<>();
+    private final AtomicInteger installationTokensMinted = new AtomicInteger();
+    private volatile Duration installationTokenTtl = Duration.ofHours(1);
+    private volatile String lastInstallationToken;
+    private volatile String lastAppJwt;
+    private volatile String lastRepositoryToken;
+
+    public GitHubStubServer(Duration latency, Duration jitter, double errorRate, int rateLimit, int pomDependencies) throws IOException {
+        this.latency = latency;
+        this.jitter = jitter;
+        this.errorRate = errorRate;
+        this.rateLimit = rateLimit;
+        this.pomXml = LoadTestData.pomXml(pomDependencies);
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    long requests() {
+        return requests.get();
+    }
+
+    long injectedErrors() {
+        return injectedErrors.get();
+    }
+
+    /**
+     * Reports a fixed {@code X-RateLimit-Remaining} for requests authenticated with {@code token}.
+     */
+    public void rateLimitRemaining(String token, int remaining) {
+        remainingByToken.put(token, remaining);
+    }
+
+    /**
+     * Reports a fixed {@code X-RateLimit-Remaining} for every token minted for {@code installationId} from now on.
+     */
+    public void installationRateLimitRemaining(long installationId, int remaining) {
+        remainingByInstallation.put(installationId, remaining);
+    }
+
+    /**
+     * Lifetime of the installation tokens minted from now on.
+     */
+    public void installationTokenTtl(Duration ttl) {
+        installationTokenTtl = ttl;
+    }
+
+    public int installationTokensMinted() {
+        return installationTokensMinted.get();
+    }
+
+    public String lastInstallationToken() {
+        return lastInstallationToken;
+    }
+
+    /**
+     * The JWT the last {@code /app} request was authenticated with.
+     */
+    public String lastAppJwt() {
+        return lastAppJwt;
+    }
+
+    /**
+     * The token the last {@code /repos} request was authenticated with.
+     */
+    public String lastRepositoryToken() {
+        return lastRepositoryToken;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            simulateLatency();
+
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                injectedErrors.incrementAndGet();
+                respond(exchange, 502, "{\"message\":\"Injected failure\"}");
+                return;
+            }
+
+            String path = exchange.getRequestURI().getPath();
+            Matcher app = APP_PATH.matcher(path);
+            if (app.matches()) {
+                routeApp(exchange, app.group(1) == null ? null : Long.parseLong(app.group(1)), app.group(2) != null);
+                return;
+            }
+
+            Matcher repo = REPO_PATH.matcher(path);
+            if (!repo.matches()) {
+                respond(exchange, 404, "{\"message\":\"Not Found\"}");
+                return;
+            }
+            lastRepositoryToken = token(exchange);
+            route(exchange, repo.group(1), repo.group(2), repo.group(3) == null ? "" : repo.group(3));
+        }
+    }
+
+    private void routeApp(HttpExchange exchange, Long installationId, boolean accessTokens) throws IOException {
+        lastAppJwt = token(exchange);
+        String method = exchange.getRequestMethod();
+
+        if (installationId == null && method.equals("GET")) {
+            respond(exchange, 200, "{\"id\":1,\"slug\":\"trivy-fix-stub\",\"name\":\"trivy-fix-stub\","
+                    + "\"owner\":{\"login\":\"load-test\",\"type\":\"Organization\"}}");
+            return;
+        }
+
+        if (installationId != null && !accessTokens && method.equals("GET")) {
+            respond(exchange, 200, String.format(
+                    "{\"id\":%d,\"app_id\":1,\"account\":{\"login\":\"load-test\",\"type\":\"Organization\"},"
+                            + "\"access_tokens_url\":\"%s/app/installations/%d/access_tokens\",\"repository_selection\":\"all\"}",
+                    installationId, baseUrl(), installationId));
+            return;
+        }
+
+        if (installationId != null && accessTokens && method.equals("POST")) {
+            String token = "ghs_" + installationId + "_" + installationTokensMinted.incrementAndGet();
+            Integer remaining = remainingByInstallation.get(installationId);
+            if (remaining != null) {
+                remainingByToken.put(token, remaining);
+            }
+            lastInstallationToken = token;
+
+            String expiresAt = DateTimeFormatter.ISO_INSTANT.format(
+                    Instant.now().plus(installationTokenTtl).truncatedTo(ChronoUnit.SECONDS));
+            respond(exchange, 201, String.format(
+                    "{\"token\":\"%s\",\"expires_at\":\"%s\",\"repository_selection\":\"all\"}", token, expiresAt));
+            return;
+        }
+
+        respond(exchange, 404, "{\"message\":\"Not Found\"}");
+    }
+
+    private void route(HttpExchange exchange, String owner, String name, String tail) throws IOException {
+        String method = exchange.getRequestMethod();
+        String repoUrl = baseUrl() + "/repos/" + owner + "/" + name;
+
+        if (tail.isEmpty() && method.equals("GET")) {
+            respond(exchange, 200, String.format(
+                    "{\"id\":1,\"name\":\"%s\",\"full_name\":\"%s/%s\",\"owner\":{\"login\":\"%s\",\"type\":\"Organization\"},"
+                            + "\"default_branch\":\"master\",\"url\":\"%s\",\"html_url\":\"%s\"}",
+                    name, owner, name, owner, repoUrl, repoUrl));
+            return;
+        }
+
+        if (tail.startsWith("/contents/")) {
+            String path = tail.substring("/contents/".length());
+            String content = String.format(
+                    "{\"type\":\"file\",\"encoding\":\"base64\",\"name\":\"%s\",\"path\":\"%s\",\"sha\":\"%s\",\"size\":%d,"
+                            + "\"url\":\"%s/contents/%s\",\"content\":\"%s\"}",
+                    path, path, POM_SHA, pomXml.length(), repoUrl, path,
+                    Base64.getEncoder().encodeToString(pomXml.getBytes(StandardCharsets.UTF_8)));
+            if (method.equals("GET")) {
+                respond(exchange, 200, content);
+            } else {
+                respond(exchange, 200, "{\"content\":" + content + ",\"commit\":{\"sha\":\"" + BASE_SHA + "\"}}");
+            }
+            return;
+        }
+
+        Matcher ref = REF_PATH.matcher(tail);
+        if (ref.matches() && method.equals("GET")) {
+            if (!ref.group(1).equals("master")) {
+                respond(exchange, 404, "{\"message\":\"Not Found\"}");
+                return;
+            }
+            respond(exchange, 200, refJson(repoUrl, "refs/heads/master"));
+            return;
+        }
+
+        if (tail.equals("/git/refs") && method.equals("POST")) {
+            respond(exchange, 201, refJson(repoUrl, "refs/heads/auto/trivy-maven-fix"));
+            return;
+        }
+
+        if (tail.equals("/pulls")) {
+            if (method.equals("GET")) {
+                respond(exchange, 200, "[]");
+            } else {
+                respond(exchange, 201, String.format(
+                        "{\"id\":1,\"number\":1,\"state\":\"open\",\"url\":\"%s/pulls/1\",\"html_url\":\"%s/pull/1\"}",
+                        repoUrl, repoUrl));
+            }
+            return;
+        }
+
+        respond(exchange, 404, "{\"message\":\"Not Found\"}");
+    }
+
+    private static String refJson(String repoUrl, String ref) {
+        return String.format("{\"ref\":\"%s\",\"url\":\"%s/git/%s\",\"object\":{\"type\":\"commit\",\"sha\":\"%s\",\"url\":\"%s/git/commits/%s\"}}",
+                ref, repoUrl, ref, BASE_SHA, repoUrl, BASE_SHA);
+    }
+
+    private static String token(HttpExchange exchange) {
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authorization == null) return "";
+
+        int space = authorization.indexOf(' ');
+        return space < 0 ? authorization : authorization.substring(space + 1).trim();
+    }
+
+    private void simulateLatency() {
+        long millis = latency.toMillis();
+        if (!jitter.isZero()) {
+            millis += ThreadLocalRandom.current().nextLong(jitter.toMillis() + 1);
+        }
+        if (millis <= 0) return;
+
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        int used = rateLimitUsed.incrementAndGet();
+        int remaining = remainingByToken.getOrDefault(token(exchange), Math.max(0, rateLimit - used));
+        long reset = Instant.now().plus(Duration.ofHours(1)).getEpochSecond();
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.getResponseHeaders().set("X-RateLimit-Limit", String.valueOf(rateLimit));
+        exchange.getResponseHeaders().set("X-RateLimit-Remaining", String.valueOf(remaining));
+        exchange.getResponseHeaders().set("X-RateLimit-Used", String.valueOf(used));
+        exchange.getResponseHeaders().set("X-RateLimit-Reset", String.valueOf(reset));
+        exchange.getResponseHeaders().set("X-RateLimit-Resource", "core");
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.akshay.trivy_automation.trivy_automation_demo.loadtest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.stream.IntStream;
+
+/**
+ * Generates Trivy reports and pom.xml files of a given size. Report package {@code i} maps to
+ * dependency {@code i} of the generated pom, so small indices exercise the direct dependency patch
+ * and the rest the dependencyManagement override path. Every generated pom inherits from
+ * {@link #PARENT}, which the aggregation scenarios register as a parent repository.
+ */
+final class LoadTestData {
+
+    static final String PARENT = "org.example.load:load-parent";
+
+    private LoadTestData() {}
+
+    static byte[] trivyReport(int vulnerabilities) {
+        return trivyReport(IntStream.range(0, vulnerabilities).toArray());
+    }
+
+    /**
+     * A report listing exactly the given package indices.
+     */
+    static byte[] trivyReport(int... packages) {
+        StringBuilder sb = new StringBuilder("{\"Results\":[{\"Target\":\"pom.xml\",\"Class\":\"lang-pkgs\",\"Type\":\"pom\",\"Vulnerabilities\":[");
+        for (int n = 0; n < packages.length; n++) {
+            int i = packages[n];
+            if (n > 0) sb.append(',');
+            sb.append(String.format(
+                    "{\"VulnerabilityID\":\"CVE-2024-%05d\",\"PkgName\":\"org.example.load:lib-%d\",\"PkgType\":\"maven\","
+                            + "\"InstalledVersion\":\"1.0.0\",\"FixedVersion\":\"1.0.%d\",\"Severity\":\"%s\","
+                            + "\"Title\":\"Generated vulnerability %d\"}",
+                    i, i, i + 1, i % 2 == 0 ? "HIGH" : "CRITICAL", i));
+        }
+        sb.append("]}]}");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static String pomXml(int dependencies) {
+        StringBuilder sb = new StringBuilder()
+                .append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n")
+                .append("    <modelVersion>4.0.0</modelVersion>\n")
+                .append("    <parent>\n")
+                .append("        <groupId>").append(PARENT.split(":")[0]).append("</groupId>\n")
+                .append("        <artifactId>").append(PARENT.split(":")[1]).append("</artifactId>\n")
+                .append("        <version>1.0.0</version>\n")
+                .append("    </parent>\n")
+                .append("    <groupId>org.example.load</groupId>\n")
+                .append("    <artifactId>load-target</artifactId>\n")
+                .append("    <version>1.0.0</version>\n")
+                .append("    <dependencies>\n");
+        for (int i = 0; i < dependencies; i++) {
+            sb.append("        <dependency>\n")
+                    .append("            <groupId>org.example.load</groupId>\n")
+                    .append("            <artifactId>lib-").append(i).append("</artifactId>\n")
+                    .append("            <version>1.0.0</version>\n")
+                    .append("        </dependency>\n");
+        }
+        return sb.append("    </dependencies>\n")
+                .append("</project>\n")
+                .toString();
+    }
+}
@@ -0,0 +1,97 @@
+package com.akshay.trivy_automation.trivy_automation_demo.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GitHubAppJwtTest {
+
+    private static KeyPair keyPair;
+
+    @BeforeAll
+    static void generateKey() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+    }
+
+    @Test
+    void signsWithPkcs1Key() throws Exception {
+        String jwt = new GitHubAppJwt("12345", pem("RSA PRIVATE KEY", pkcs1())).sign();
+
+        assertThat(verify(jwt)).isTrue();
+    }
+
+    @Test
+    void signsWithPkcs8Key() throws Exception {
+        String jwt = new GitHubAppJwt("12345", pem("PRIVATE KEY", keyPair.getPrivate().getEncoded())).sign();
+
+        assertThat(verify(jwt)).isTrue();
+    }
+
+    @Test
+    void acceptsEscapedNewlinesFromEnvironment() throws Exception {
+        String escaped = pem("RSA PRIVATE KEY", pkcs1()).replace("\n", "\\n");
+
+        assertThat(verify(new GitHubAppJwt("12345", escaped).sign())).isTrue();
+    }
+
+    @Test
+    void claimsIdentifyTheAppAndStayWithinTenMinutes() throws Exception {
+        long now = Instant.now().getEpochSecond();
+        String jwt = new GitHubAppJwt("12345", pem("RSA PRIVATE KEY", pkcs1())).sign();
+
+        String[] parts = jwt.split("\\.");
+        JsonNode header = new ObjectMapper().readTree(Base64.getUrlDecoder().decode(parts[0]));
+        JsonNode claims = new ObjectMapper().readTree(Base64.getUrlDecoder().decode(parts[1]));
+
+        assertThat(header.get("alg").asText()).isEqualTo("RS256");
+        assertThat(claims.get("iss").asText()).isEqualTo("12345");
+        assertThat(claims.get("iat").asLong()).isLessThanOrEqualTo(now);
+        assertThat(claims.get("exp").asLong()).isGreaterThan(now);
+        assertThat(claims.get("exp").asLong() - claims.get("iat").asLong()).isLessThanOrEqualTo(600);
+    }
+
+    @Test
+    void rejectsInvalidKey() {
+        assertThatThrownBy(() -> new GitHubAppJwt("12345", pem("PRIVATE KEY", new byte[]{1, 2, 3})))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    /**
+     * A PKCS#8 RSA key is the PKCS#1 key inside an OCTET STRING; for 2048-bit keys that starts at offset 26.
+     */
+    private static byte[] pkcs1() {
+        byte[] pkcs8 = keyPair.getPrivate().getEncoded();
+        assertThat(pkcs8[22]).isEqualTo((byte) 0x04);
+        return Arrays.copyOfRange(pkcs8, 26, pkcs8.length);
+    }
+
+    private static String pem(String type, byte[] der) {
+        return "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(der)
+                + "\n-----END " + type + "-----\n";
+    }
+
+    private static boolean verify(String jwt) throws Exception {
+        String[] parts = jwt.split("\\.");
+        assertThat(parts).hasSize(3);
+
+        Signature signature = Signature.getInstance("SHA256withRSA");
+        signature.initVerify(keyPair.getPublic());
+        signature.update((parts[0] + "." + parts[1]).getBytes(StandardCharsets.US_ASCII));
+        return signature.verify(Base64.getUrlDecoder().decode(parts[2]));
+    }
+}
@@ -0,0 +1,146 @@
+package com.akshay.trivy_automation.trivy_automation_demo.service;
+
+import com.akshay.trivy_automation.trivy_automation_demo.service.ParentFixPlanner.ChildFixes;
+import com.akshay.trivy_automation.trivy_automation_demo.service.ParentFixPlanner.ParentFix;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ParentFixPlannerTest {
+
+    private static final String ACME_PARENT = "com.acme:acme-parent";
+    private static final String ACME_BOM = "com.acme:acme-bom";
+    private static final String LOG4J = "org.apache.logging.log4j:log4j-core";
+    private static final String JACKSON = "com.fasterxml.jackson.core:jackson-databind";
+    private static final String NETTY = "io.netty:netty-codec";
+
+    private final ParentFixPlanner planner = new ParentFixPlanner(Map.of(ACME_PARENT, "acme/acme-parent"), 2);
+
+    @Test
+    void normalizeKeepsFirstFixedVersion() {
+        assertThat(ParentFixPlanner.normalize(Map.of(LOG4J, "2.17.1, 2.12.4", JACKSON, "2.13.4")))
+                .containsExactlyInAnyOrderEntriesOf(Map.of(LOG4J, "2.17.1", JACKSON, "2.13.4"));
+    }
+
+    @Test
+    void commonFixesRequireSamePackageAndVersionInEveryChild() {
+        ChildFixes a = child("acme/a", ACME_PARENT, Map.of(LOG4J, "2.17.1", JACKSON, "2.13.4", NETTY, "4.1.86"));
+        ChildFixes b = child("acme/b", ACME_PARENT, Map.of(LOG4J, "2.17.1", JACKSON, "2.14.0"));
+
+        assertThat(ParentFixPlanner.commonFixes(List.of(a, b))).containsExactlyEntriesOf(Map.of(LOG4J, "2.17.1"));
+    }
+
+    @Test
+    void pinsVersionOnlyWhenChildDeclaresAVersion() {
+        Model model = model(ACME_PARENT);
+        model.addDependency(dependency(LOG4J, "2.14.0"));
+        model.addDependency(dependency(NETTY, null));
+        DependencyManagement management = new DependencyManagement();
+        management.addDependency(dependency(JACKSON, "2.12.0"));
+        model.setDependencyManagement(management);
+
+        assertThat(ParentFixPlanner.pinsVersion(model, LOG4J)).isTrue();
+        assertThat(ParentFixPlanner.pinsVersion(model, JACKSON)).isTrue();
+        assertThat(ParentFixPlanner.pinsVersion(model, NETTY)).isFalse();
+        assertThat(ParentFixPlanner.pinsVersion(model, "not-coordinates")).isFalse();
+    }
+
+    @Test
+    void sharedFixGoesToParentAndPinnedChildKeepsIt() {
+        ChildFixes a = child("acme/a", ACME_PARENT, Map.of(LOG4J, "2.17.1", NETTY, "4.1.86"));
+        ChildFixes b = child("acme/b", ACME_PARENT, Map.of(LOG4J, "2.17.1"));
+        b.model().addDependency(dependency(LOG4J, "2.14.0"));
+
+        List<ParentFix> plan = planner.plan(List.of(a, b));
+
+        assertThat(plan).hasSize(1);
+        ParentFix parentFix = plan.get(0);
+        assertThat(parentFix.repository()).isEqualTo("acme/acme-parent");
+        assertThat(parentFix.fixes()).containsExactlyEntriesOf(Map.of(LOG4J, "2.17.1"));
+        assertThat(parentFix.coveredByChild()).containsOnly(
+                Map.entry("acme/a", Set.of(LOG4J)),
+                Map.entry("acme/b", Set.of()));
+    }
+
+    @Test
+    void groupsBelowMinChildrenStayPerChild() {
+        ChildFixes a = child("acme/a", ACME_PARENT, Map.of(LOG4J, "2.17.1"));
+        ChildFixes other = child("acme/other", null, Map.of(LOG4J, "2.17.1"));
+
+        assertThat(planner.plan(List.of(a, other))).isEmpty();
+    }
+
+    @Test
+    void parentsMissingFromConfigStayPerChild() {
+        ChildFixes a = child("acme/a", "org.example:unknown-parent", Map.of(LOG4J, "2.17.1"));
+        ChildFixes b = child("acme/b", "org.example:unknown-parent", Map.of(LOG4J, "2.17.1"));
+
+        assertThat(planner.plan(List.of(a, b))).isEmpty();
+    }
+
+    @Test
+    void parentsSharingARepositoryBecomeOnePr() {
+        ParentFixPlanner shared = new ParentFixPlanner(
+                Map.of(ACME_PARENT, "acme/platform", ACME_BOM, "acme/platform"), 2);
+
+        List<ParentFix> plan = shared.plan(List.of(
+                child("acme/a", ACME_PARENT, Map.of(LOG4J, "2.17.1", JACKSON, "2.13.4")),
+                child("acme/b", ACME_PARENT, Map.of(LOG4J, "2.17.1", JACKSON, "2.13.4")),
+                child("acme/c", ACME_BOM, Map.of(LOG4J, "2.17.1", NETTY, "4.1.86", JACKSON, "2.14.0")),
+                child("acme/d", ACME_BOM, Map.of(LOG4J, "2.17.1", NETTY, "4.1.86", JACKSON, "2.14.0"))));
+
+        assertThat(plan).hasSize(1);
+        ParentFix parentFix = plan.get(0);
+        assertThat(parentFix.repository()).isEqualTo("acme/platform");
+        // The two parents disagree on jackson-databind, so it is left to the children.
+        assertThat(parentFix.fixes()).containsOnly(Map.entry(LOG4J, "2.17.1"), Map.entry(NETTY, "4.1.86"));
+        assertThat(parentFix.coveredByChild()).containsOnly(
+                Map.entry("acme/a", Set.of(LOG4J)),
+                Map.entry("acme/b", Set.of(LOG4J)),
+                Map.entry("acme/c", Set.of(LOG4J, NETTY)),
+                Map.entry("acme/d", Set.of(LOG4J, NETTY)));
+    }
+
+    @Test
+    void rejectsMalformedParentRepositoryEntries() {
+        assertThat(ParentFixPlanner.parseParentRepositories(List.of("", " com.acme:acme-parent = acme/acme-parent ")))
+                .containsExactlyEntriesOf(Map.of(ACME_PARENT, "acme/acme-parent"));
+        assertThatThrownBy(() -> ParentFixPlanner.parseParentRepositories(List.of("acme-parent=acme/acme-parent")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static ChildFixes child(String repository, String parent, Map<String, String> fixes) {
+        return new ChildFixes(repository, model(parent), fixes);
+    }
+
+    private static Model model(String parentCoordinates) {
+        Model model = new Model();
+        if (parentCoordinates != null) {
+            String[] cords = parentCoordinates.split(":");
+            Parent parent = new Parent();
+            parent.setGroupId(cords[0]);
+            parent.setArtifactId(cords[1]);
+            parent.setVersion("1.0.0");
+            model.setParent(parent);
+        }
+        return model;
+    }
+
+    private static Dependency dependency(String coordinates, String version) {
+        String[] cords = coordinates.split(":");
+        Dependency dependency = new Dependency();
+        dependency.setGroupId(cords[0]);
+        dependency.setArtifactId(cords[1]);
+        dependency.setVersion(version);
+        return dependency;
+    }
+}